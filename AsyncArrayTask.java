@@ -43,24 +43,10 @@ public class AsyncArrayTask {
 
         long startTime = System.currentTimeMillis();
 
-        CopyOnWriteArrayList<Integer> finalResult = new CopyOnWriteArrayList<>();
-
         int cores = Runtime.getRuntime().availableProcessors();
         ExecutorService executor = Executors.newFixedThreadPool(cores);
 
-        List<Future<List<Integer>>> futures = new ArrayList<>();
-
-        int chunkSize = 10;
-
-        for (int i = 0; i < originalList.size(); i += chunkSize) {
-            int end = Math.min(originalList.size(), i + chunkSize);
-            List<Integer> subList = originalList.subList(i, end);
-
-            Callable<List<Integer>> task = new ChunkMultiplier(subList, multiplier);
-            futures.add(executor.submit(task));
-        }
-
-        collectResults(futures, finalResult);
+        CopyOnWriteArrayList<Integer> finalResult = multiplyInChunks(originalList, multiplier, 10, executor);
 
         executor.shutdown();
 
@@ -71,6 +57,24 @@ public class AsyncArrayTask {
         System.out.println("------------------------------------------------");
     }
 
+    // Ділить список на частини по chunkSize і множить кожну в окремому ChunkMultiplier
+    static CopyOnWriteArrayList<Integer> multiplyInChunks(List<Integer> list, int multiplier, int chunkSize,
+                                                          ExecutorService executor) {
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+
+        for (int i = 0; i < list.size(); i += chunkSize) {
+            int end = Math.min(list.size(), i + chunkSize);
+            List<Integer> subList = list.subList(i, end);
+
+            Callable<List<Integer>> task = new ChunkMultiplier(subList, multiplier);
+            futures.add(executor.submit(task));
+        }
+
+        CopyOnWriteArrayList<Integer> resultList = new CopyOnWriteArrayList<>();
+        collectResults(futures, resultList);
+        return resultList;
+    }
+
     private static void collectResults(List<Future<List<Integer>>> futures, CopyOnWriteArrayList<Integer> resultList) {
         for (Future<List<Integer>> future : futures) {
             try {
@@ -91,11 +95,19 @@ public class AsyncArrayTask {
     }
 
     private static List<Integer> generateRandomList() {
-        List<Integer> list = new ArrayList<>();
-        int size = ThreadLocalRandom.current().nextInt(40, 61); // 40-60 елементів
+        return generateRandomList(ThreadLocalRandom.current().nextInt(40, 61)); // 40-60 елементів
+    }
+
+    static List<Integer> generateRandomList(int size) {
+        return generateRandomList(size, ThreadLocalRandom.current().nextLong());
+    }
 
-        for (int i = 0; i < size; i++) {
-            list.add(ThreadLocalRandom.current().nextInt(-100, 101)); // -100..100
+    // ChunkMultiplier працює зі списками, тому значення генеруються паралельно і лише потім пакуються
+    static List<Integer> generateRandomList(int size, long seed) {
+        int[] values = RandomDataGenerator.generateInts(size, seed, RandomDataGenerator.uniform(-100, 100)); // -100..100
+        List<Integer> list = new ArrayList<>(size);
+        for (int v : values) {
+            list.add(v);
         }
         return list;
     }
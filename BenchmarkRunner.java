@@ -0,0 +1,541 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * BenchmarkRunner.java
+ *
+ * Неінтерактивний запуск бенчмарків для PR3, AsyncArrayTask, PR4 та InternetShop.
+ * Всі параметри задаються аргументами, результати — у CSV або JSON:
+ *
+ *   java BenchmarkRunner --bench=pairwise,chunk --sizes=100000,1000000 --threads=1,4,8
+ *        --strategies=stealing,dealing --warmup=2 --repeat=10 --seed=42 --format=csv --out=results.csv
+ *
+ * Вивід самих програм під час вимірювань приглушується, прогрес пишеться у System.err.
+ */
+public class BenchmarkRunner {
+
+    private static final List<String> ALL_BENCHES = Arrays.asList("pairwise", "filesearch", "chunk", "pr4", "shop", "gen");
+    private static final PrintStream NULL_OUT = new PrintStream(OutputStream.nullOutputStream());
+
+    // Одне вимірюване виконання; повертає кількість оброблених операцій (для throughput)
+    interface Workload {
+        long run() throws Exception;
+
+        // Підготовка перед прогрівом і звільнення ресурсів після вимірювань — поза вимірюваним часом
+        default void setup() throws Exception {
+        }
+
+        default void teardown() throws Exception {
+        }
+    }
+
+    // Прогін завершився невдало, але його час усе одно враховується; рахується окремо в failures
+    static class WorkloadFailedException extends Exception {
+        WorkloadFailedException(String message) {
+            super(message);
+        }
+    }
+
+    // Конкретна комбінація параметрів бенчмарку
+    static class Case {
+        final String bench;
+        final String strategy;
+        final int size;
+        final int threads;
+        final Workload workload;
+
+        Case(String bench, String strategy, int size, int threads, Workload workload) {
+            this.bench = bench;
+            this.strategy = strategy;
+            this.size = size;
+            this.threads = threads;
+            this.workload = workload;
+        }
+    }
+
+    // Вхідні дані, спільні для кількох випадків: генеруються в setup() першого з них
+    // і звільняються в teardown() останнього, тож у пам'яті лише одна копія на розмір
+    static class SharedInput<T> {
+        private final Supplier<T> generator;
+        private int users;
+        private T value;
+
+        SharedInput(Supplier<T> generator) {
+            this.generator = generator;
+        }
+
+        // Реєструє ще один випадок, що використовує ці дані (під час побудови випадків)
+        SharedInput<T> share() {
+            users++;
+            return this;
+        }
+
+        T acquire() {
+            if (value == null) {
+                value = generator.get();
+            }
+            return value;
+        }
+
+        void release() {
+            if (--users == 0) {
+                value = null;
+            }
+        }
+    }
+
+    // Навантаження над спільними вхідними даними; дані доступні лише між setup() і teardown()
+    static class InputWorkload<T> implements Workload {
+        interface Body<T> {
+            long run(T input) throws Exception;
+        }
+
+        private final SharedInput<T> shared;
+        private final Body<T> body;
+        private T input;
+
+        InputWorkload(SharedInput<T> shared, Body<T> body) {
+            this.shared = shared.share();
+            this.body = body;
+        }
+
+        @Override
+        public void setup() {
+            input = shared.acquire();
+        }
+
+        @Override
+        public long run() throws Exception {
+            return body.run(input);
+        }
+
+        @Override
+        public void teardown() {
+            input = null;
+            shared.release();
+        }
+    }
+
+    static class Result {
+        final Case c;
+        final int repeats;
+        final int failures;
+        final double opsPerSec;
+        final double p50Ms;
+        final double p90Ms;
+        final double p99Ms;
+        final double maxMs;
+        final long gcCount;
+        final long gcTimeMs;
+
+        Result(Case c, int repeats, int failures, double opsPerSec, double p50Ms, double p90Ms, double p99Ms,
+               double maxMs, long gcCount, long gcTimeMs) {
+            this.c = c;
+            this.repeats = repeats;
+            this.failures = failures;
+            this.opsPerSec = opsPerSec;
+            this.p50Ms = p50Ms;
+            this.p90Ms = p90Ms;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+            this.gcCount = gcCount;
+            this.gcTimeMs = gcTimeMs;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parseArgs(args);
+        if (opts.containsKey("help")) {
+            printUsage();
+            return;
+        }
+
+        List<String> benches = listOpt(opts, "bench", String.join(",", ALL_BENCHES));
+        List<Integer> sizes = intListOpt(opts, "sizes", "100000");
+        List<Integer> threads = intListOpt(opts, "threads", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        List<String> strategies = listOpt(opts, "strategies", "");
+        int warmup = Integer.parseInt(opts.getOrDefault("warmup", "2"));
+        int repeat = Integer.parseInt(opts.getOrDefault("repeat", "5"));
+        int chunkSize = Integer.parseInt(opts.getOrDefault("chunk", "1000"));
+        long seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+        File dir = new File(opts.getOrDefault("dir", "."));
+        String extension = opts.getOrDefault("ext", ".java");
+        String format = opts.getOrDefault("format", "csv");
+        String out = opts.get("out");
+        Path genFile = opts.containsKey("file") ? Paths.get(opts.get("file")) : null;
+
+        if (repeat < 1 || warmup < 0) {
+            throw new IllegalArgumentException("--repeat має бути >= 1, --warmup >= 0");
+        }
+        if (!format.equals("csv") && !format.equals("json")) {
+            throw new IllegalArgumentException("Невідомий формат: " + format + " (csv або json)");
+        }
+
+        List<Case> cases = new ArrayList<>();
+        for (String bench : benches) {
+            cases.addAll(buildCases(bench, sizes, threads, strategies, chunkSize, seed, dir, extension, genFile));
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (Case c : cases) {
+            System.err.printf("[BENCH] %s/%s size=%d threads=%d ...%n", c.bench, c.strategy, c.size, c.threads);
+            results.add(measure(c, warmup, repeat));
+        }
+
+        String report = format.equals("json") ? toJson(results) : toCsv(results);
+        if (out == null) {
+            System.out.print(report);
+        } else {
+            try (PrintWriter writer = new PrintWriter(out, StandardCharsets.UTF_8)) {
+                writer.print(report);
+            }
+            System.err.println("[BENCH] Результати записано у " + out);
+        }
+    }
+
+    private static List<Case> buildCases(String bench, List<Integer> sizes, List<Integer> threads,
+                                         List<String> strategies, int chunkSize, long seed,
+                                         File dir, String extension, Path genFile) {
+        List<Case> cases = new ArrayList<>();
+        switch (bench) {
+            case "pairwise":
+                // Розмір — зовнішній цикл: масив спільний для всіх стратегій і звільняється після них
+                for (int size : sizes) {
+                    SharedInput<int[]> array = new SharedInput<>(
+                            () -> RandomDataGenerator.generateInts(size, seed, RandomDataGenerator.uniform(0, 1000)));
+                    for (String strategy : pick(strategies, "stealing", "dealing")) {
+                        for (int t : threads) {
+                            cases.add(new Case(bench, strategy, size, t,
+                                    new InputWorkload<>(array, pairwise(strategy, t))));
+                        }
+                    }
+                }
+                break;
+            case "filesearch":
+                if (!dir.isDirectory()) {
+                    throw new IllegalArgumentException("--dir не є директорією: " + dir);
+                }
+                for (int t : threads) {
+                    cases.add(new Case(bench, "stealing", 0, t, () -> {
+                        ForkJoinPool fjp = new ForkJoinPool(t);
+                        try {
+                            return fjp.invoke(new PR3.FileSearchTask(dir, extension));
+                        } finally {
+                            fjp.shutdown();
+                        }
+                    }));
+                }
+                break;
+            case "chunk":
+                for (int size : sizes) {
+                    SharedInput<List<Integer>> list = new SharedInput<>(() -> AsyncArrayTask.generateRandomList(size, seed));
+                    for (int t : threads) {
+                        cases.add(new Case(bench, "dealing", size, t, new InputWorkload<>(list, chunks(t, chunkSize))));
+                    }
+                }
+                break;
+            case "pr4":
+                for (String strategy : pick(strategies, "task1", "task2")) {
+                    cases.add(new Case(bench, strategy, 0, 0, () -> {
+                        boolean completed = strategy.equals("task1") ? PR4.runTask1() : PR4.runTask2();
+                        if (!completed) {
+                            throw new WorkloadFailedException(strategy + " скасовано або перервано");
+                        }
+                        return 1;
+                    }));
+                }
+                break;
+            case "shop":
+                for (int size : sizes) {
+                    for (int t : threads) {
+                        cases.add(new Case(bench, "semaphore", size, t, new ShopWorkload(size, t)));
+                    }
+                }
+                break;
+            case "gen":
+                for (String strategy : pick(strategies, "uniform", "gaussian")) {
+                    RandomDataGenerator.Distribution dist = distribution(strategy);
+                    String label = genFile == null ? strategy : strategy + "-file";
+                    for (int size : sizes) {
+                        for (int t : threads) {
+                            cases.add(new Case(bench, label, size, t, () -> {
+                                ForkJoinPool fjp = new ForkJoinPool(t);
+                                try {
+                                    if (genFile != null) {
+                                        RandomDataGenerator.generateToFile(genFile, size, seed, dist, fjp);
+                                        return size;
+                                    }
+                                    return RandomDataGenerator.generateInts(size, seed, dist, fjp).length;
+                                } finally {
+                                    fjp.shutdown();
+                                }
+                            }));
+                        }
+                    }
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Невідомий бенчмарк: " + bench + " (доступні: " + ALL_BENCHES + ")");
+        }
+        return cases;
+    }
+
+    // Обидва розподіли дають значення в [0, 1000], як і вхідні дані інших бенчмарків
+    private static RandomDataGenerator.Distribution distribution(String name) {
+        if (name.equals("gaussian")) {
+            return RandomDataGenerator.gaussian(500, 150, 0, 1000);
+        }
+        return RandomDataGenerator.uniform(0, 1000);
+    }
+
+    private static InputWorkload.Body<int[]> pairwise(String strategy, int threads) {
+        if (strategy.equals("dealing")) {
+            return array -> {
+                PR3.runWorkDealing(array, threads);
+                return array.length;
+            };
+        }
+        return array -> {
+            ForkJoinPool fjp = new ForkJoinPool(threads);
+            try {
+                fjp.invoke(new PR3.PairwiseSumTask(array, 0, array.length));
+                return array.length;
+            } finally {
+                fjp.shutdown();
+            }
+        };
+    }
+
+    private static InputWorkload.Body<List<Integer>> chunks(int threads, int chunkSize) {
+        return list -> {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                return AsyncArrayTask.multiplyInChunks(list, 3, chunkSize, executor).size();
+            } finally {
+                executor.shutdown();
+            }
+        };
+    }
+
+    // Покупці розкуповують увесь склад без очікування; операція = одна успішна покупка.
+    // Магазин створюється один раз на бенчмарк, у кожному прогоні склад лише поповнюється
+    static class ShopWorkload implements Workload {
+        private final int stockQty;
+        private final int buyers;
+        private InternetShop.Shop shop;
+
+        ShopWorkload(int stockQty, int buyers) {
+            this.stockQty = stockQty;
+            this.buyers = buyers;
+        }
+
+        @Override
+        public void setup() {
+            shop = new InternetShop.Shop();
+            shop.addProduct("bench", 0);
+            shop.openShop();
+        }
+
+        @Override
+        public long run() throws InterruptedException {
+            shop.restock("bench", stockQty);
+
+            LongAdder bought = new LongAdder();
+            List<Thread> buyerThreads = new ArrayList<>();
+            for (int i = 0; i < buyers; i++) {
+                Thread t = new Thread(() -> {
+                    try {
+                        while (shop.tryBuy("bench", 0)) {
+                            bought.increment();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, "Bench-Buyer-" + i);
+                buyerThreads.add(t);
+                t.start();
+            }
+            for (Thread t : buyerThreads) {
+                t.join();
+            }
+            return bought.sum();
+        }
+
+        @Override
+        public void teardown() throws InterruptedException {
+            if (shop != null) {
+                shop.closeShop();
+                shop.shutdown();
+                shop = null;
+            }
+        }
+    }
+
+    private static Result measure(Case c, int warmup, int repeat) throws Exception {
+        PrintStream stdout = System.out;
+        System.setOut(NULL_OUT);
+        try {
+            c.workload.setup();
+            for (int i = 0; i < warmup; i++) {
+                try {
+                    c.workload.run();
+                } catch (WorkloadFailedException e) {
+                    // Невдалий прогрів нічого не змінює в результатах
+                }
+            }
+
+            long gcCountBefore = gcCount();
+            long gcTimeBefore = gcTimeMs();
+            long[] latencies = new long[repeat];
+            long totalOps = 0;
+            long totalNanos = 0;
+            int failures = 0;
+            for (int i = 0; i < repeat; i++) {
+                long start = System.nanoTime();
+                try {
+                    totalOps += c.workload.run();
+                } catch (WorkloadFailedException e) {
+                    failures++;
+                }
+                latencies[i] = System.nanoTime() - start;
+                totalNanos += latencies[i];
+            }
+            long gcCount = gcCount() - gcCountBefore;
+            long gcTime = gcTimeMs() - gcTimeBefore;
+
+            Arrays.sort(latencies);
+            if (failures > 0) {
+                System.err.printf("[BENCH] %s/%s: %d з %d прогонів невдалі%n", c.bench, c.strategy, failures, repeat);
+            }
+            return new Result(c, repeat, failures, totalOps / (totalNanos / 1_000_000_000.0),
+                    percentileMs(latencies, 0.50), percentileMs(latencies, 0.90), percentileMs(latencies, 0.99),
+                    latencies[latencies.length - 1] / 1_000_000.0, gcCount, gcTime);
+        } finally {
+            try {
+                c.workload.teardown();
+            } finally {
+                System.setOut(stdout);
+            }
+        }
+    }
+
+    // Перцентиль за методом nearest-rank по відсортованому масиву
+    private static double percentileMs(long[] sorted, double p) {
+        int index = Math.max(0, (int) Math.ceil(p * sorted.length) - 1);
+        return sorted[index] / 1_000_000.0;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTimeMs() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+
+    private static String toCsv(List<Result> results) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("bench,strategy,size,threads,repeats,failures,ops_per_sec,p50_ms,p90_ms,p99_ms,max_ms,gc_count,gc_time_ms\n");
+        for (Result r : results) {
+            sb.append(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%.2f,%.4f,%.4f,%.4f,%.4f,%d,%d%n",
+                    r.c.bench, r.c.strategy, r.c.size, r.c.threads, r.repeats, r.failures, r.opsPerSec,
+                    r.p50Ms, r.p90Ms, r.p99Ms, r.maxMs, r.gcCount, r.gcTimeMs));
+        }
+        return sb.toString();
+    }
+
+    private static String toJson(List<Result> results) {
+        StringBuilder sb = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            sb.append(String.format(Locale.ROOT,
+                    "  {\"bench\": \"%s\", \"strategy\": \"%s\", \"size\": %d, \"threads\": %d, \"repeats\": %d, "
+                            + "\"failures\": %d, \"ops_per_sec\": %.2f, \"p50_ms\": %.4f, \"p90_ms\": %.4f, \"p99_ms\": %.4f, "
+                            + "\"max_ms\": %.4f, \"gc_count\": %d, \"gc_time_ms\": %d}",
+                    r.c.bench, r.c.strategy, r.c.size, r.c.threads, r.repeats, r.failures, r.opsPerSec,
+                    r.p50Ms, r.p90Ms, r.p99Ms, r.maxMs, r.gcCount, r.gcTimeMs));
+            sb.append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        return sb.append("]\n").toString();
+    }
+
+    // --key=value або --flag
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Невідомий аргумент: " + arg + " (див. --help)");
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                opts.put(arg.substring(2), "");
+            } else {
+                opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return opts;
+    }
+
+    private static List<String> listOpt(Map<String, String> opts, String key, String defaultValue) {
+        List<String> values = new ArrayList<>();
+        for (String v : opts.getOrDefault(key, defaultValue).split(",")) {
+            if (!v.isBlank()) values.add(v.trim());
+        }
+        return values;
+    }
+
+    private static List<Integer> intListOpt(Map<String, String> opts, String key, String defaultValue) {
+        List<Integer> values = new ArrayList<>();
+        for (String v : listOpt(opts, key, defaultValue)) {
+            int n = Integer.parseInt(v);
+            if (n < 1) {
+                throw new IllegalArgumentException("--" + key + " має містити додатні числа: " + v);
+            }
+            values.add(n);
+        }
+        return values;
+    }
+
+    // Стратегії з --strategies, що підходять бенчмарку; якщо жодна — всі стратегії бенчмарку
+    private static List<String> pick(List<String> requested, String... available) {
+        List<String> picked = new ArrayList<>();
+        for (String s : available) {
+            if (requested.contains(s)) picked.add(s);
+        }
+        return picked.isEmpty() ? Arrays.asList(available) : picked;
+    }
+
+    private static void printUsage() {
+        System.out.println("Використання: java BenchmarkRunner [опції]");
+        System.out.println("  --bench=pairwise,filesearch,chunk,pr4,shop,gen   які бенчмарки запускати (за замовчуванням всі)");
+        System.out.println("  --sizes=100000,1000000   розміри вхідних даних (pairwise, chunk, shop, gen)");
+        System.out.println("  --threads=1,4,8          кількість потоків (pairwise, filesearch, chunk, shop, gen)");
+        System.out.println("  --strategies=...         stealing,dealing (pairwise); task1,task2 (pr4); uniform,gaussian (gen)");
+        System.out.println("  --warmup=2 --repeat=5    кількість прогрівів та вимірювань");
+        System.out.println("  --seed=42                seed генератора вхідних даних");
+        System.out.println("  --chunk=1000             розмір частини для ChunkMultiplier");
+        System.out.println("  --dir=. --ext=.java      директорія та розширення для filesearch");
+        System.out.println("  --file=шлях              gen пише дані у файл через відображення в пам'ять, а не в масив");
+        System.out.println("  --format=csv|json --out=файл   формат і файл результатів (за замовчуванням stdout)");
+    }
+}
@@ -1,19 +1,250 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
 
 /**
  * InternetShop.java
  *
  * Проста симуляція інтернет-магазину з багатопоточністю:
  * - Admin додає товари (release семафора) в робочі години.
- * - Buyers намагаються купити товар (tryAcquire семафора).
- * - Використовується Runnable + Thread, показуються Thread states.
+ * - Buyers резервують товар у кошику (tryAcquire семафора) і підтверджують покупку;
+ *   непідтверджений резерв автоматично повертається на склад після TTL.
+ * - Години роботи, поповнення та TTL резервів обслуговує одне колесо таймерів (TimerWheel).
+ * - Використовується Runnable + Thread, ShopProfiler збирає час у станах потоків.
  *
  * Зрозумілі повідомлення українською для не-програміста.
  */
 public class InternetShop {
 
+    // --- JFR події (дешеві, коли запис JFR вимкнено) ---
+    @Name("shop.TryBuy")
+    @Label("Спроба купівлі")
+    @Category("InternetShop")
+    static class TryBuyEvent extends Event {
+        @Label("Товар")
+        String product;
+        @Label("Успіх")
+        boolean success;
+    }
+
+    @Name("shop.Restock")
+    @Label("Поповнення товару")
+    @Category("InternetShop")
+    static class RestockEvent extends Event {
+        @Label("Товар")
+        String product;
+        @Label("Кількість")
+        int qty;
+    }
+
+    @Name("shop.Reserve")
+    @Label("Резерв у кошику")
+    @Category("InternetShop")
+    static class ReserveEvent extends Event {
+        @Label("Товар")
+        String product;
+        @Label("Успіх")
+        boolean success;
+        @Label("TTL резерву, мс")
+        long ttlMillis;
+    }
+
+    @Name("shop.Confirm")
+    @Label("Підтвердження покупки")
+    @Category("InternetShop")
+    static class ConfirmEvent extends Event {
+        @Label("Товар")
+        String product;
+        @Label("Успіх")
+        boolean success;
+    }
+
+    @Name("shop.ReservationExpired")
+    @Label("Резерв прострочено")
+    @Category("InternetShop")
+    static class ReservationExpiredEvent extends Event {
+        @Label("Товар")
+        String product;
+    }
+
+    @Name("shop.SemaphoreWait")
+    @Label("Очікування семафора")
+    @Category("InternetShop")
+    static class SemaphoreWaitEvent extends Event {
+        @Label("Товар")
+        String product;
+        @Label("Отримано")
+        boolean acquired;
+    }
+
+    // Профайлер: ThreadMXBean для потоків + лічильники очікування по товарах
+    static class ShopProfiler {
+        private final ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        // threadName -> знімок стану потоку перед завершенням
+        private final Map<String, ThreadSummary> threads = new ConcurrentHashMap<>();
+        // productName -> статистика очікування на семафорі
+        private final Map<String, ProductStats> products = new ConcurrentHashMap<>();
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        // Налаштування ThreadMXBean глобальні для JVM: вмикаємо для першого профайлера
+        // і повертаємо попередні значення, коли закривається останній
+        private static int activeProfilers;
+        private static boolean previousContention;
+        private static boolean previousCpuTime;
+
+        public ShopProfiler() {
+            synchronized (ShopProfiler.class) {
+                if (activeProfilers++ == 0) {
+                    if (mx.isThreadContentionMonitoringSupported()) {
+                        previousContention = mx.isThreadContentionMonitoringEnabled();
+                        mx.setThreadContentionMonitoringEnabled(true);
+                    }
+                    if (mx.isThreadCpuTimeSupported()) {
+                        previousCpuTime = mx.isThreadCpuTimeEnabled();
+                        mx.setThreadCpuTimeEnabled(true);
+                    }
+                }
+            }
+        }
+
+        public void close() {
+            if (!closed.compareAndSet(false, true)) return;
+            synchronized (ShopProfiler.class) {
+                if (--activeProfilers == 0) {
+                    if (mx.isThreadContentionMonitoringSupported()) {
+                        mx.setThreadContentionMonitoringEnabled(previousContention);
+                    }
+                    if (mx.isThreadCpuTimeSupported()) {
+                        mx.setThreadCpuTimeEnabled(previousCpuTime);
+                    }
+                }
+            }
+        }
+
+        // Викликати з потоку наприкінці run(): після завершення ThreadMXBean вже не дає даних
+        public void captureCurrentThread() {
+            Thread current = Thread.currentThread();
+            ThreadInfo info = mx.getThreadInfo(current.getId());
+            if (info == null) return;
+            long cpuNanos = mx.isCurrentThreadCpuTimeSupported() ? mx.getCurrentThreadCpuTime() : -1;
+            threads.put(current.getName(), new ThreadSummary(
+                    info.getBlockedCount(), info.getBlockedTime(),
+                    info.getWaitedCount(), info.getWaitedTime(), cpuNanos));
+        }
+
+        public void recordWait(String productName, long waitNanos, boolean acquired) {
+            ProductStats stats = products.computeIfAbsent(productName, k -> new ProductStats());
+            stats.waitNanos.add(waitNanos);
+            (acquired ? stats.acquired : stats.missed).increment();
+        }
+
+        // Завершена покупка: tryBuy або підтверджений резерв
+        public void recordPurchase(String productName) {
+            products.computeIfAbsent(productName, k -> new ProductStats()).bought.increment();
+        }
+
+        public void recordExpired(String productName) {
+            products.computeIfAbsent(productName, k -> new ProductStats()).expired.increment();
+        }
+
+        public void recordRestock(String productName, int qty) {
+            products.computeIfAbsent(productName, k -> new ProductStats()).restocked.add(qty);
+        }
+
+        public void printReport() {
+            System.out.println("=== Профіль потоків (час у мс, -1 = не підтримується JVM) ===");
+            System.out.printf("%-14s %10s %10s %16s %16s %8s\n",
+                    "Потік", "BLOCKED#", "BLOCKED", "WAITING/TIMED#", "WAITING/TIMED", "CPU");
+            for (Map.Entry<String, ThreadSummary> e : new TreeMap<>(threads).entrySet()) {
+                ThreadSummary t = e.getValue();
+                System.out.printf("%-14s %10d %10d %16d %16d %8d\n", e.getKey(),
+                        t.blockedCount, t.blockedMillis, t.waitedCount, t.waitedMillis,
+                        t.cpuNanos < 0 ? -1 : t.cpuNanos / 1_000_000);
+            }
+            System.out.println("=== Профіль товарів (очікування на семафорі) ===");
+            // "Отримано" — одиниці, взяті зі складу (у т.ч. під резерв), "Куплено" — завершені покупки
+            System.out.printf("%-10s %8s %8s %8s %12s %10s %12s\n",
+                    "Товар", "Отримано", "Куплено", "Промахи", "Очікування", "Поповнено", "Прострочено");
+            for (Map.Entry<String, ProductStats> e : new TreeMap<>(products).entrySet()) {
+                ProductStats p = e.getValue();
+                System.out.printf("%-10s %8d %8d %8d %10d мс %10d %12d\n", e.getKey(),
+                        p.acquired.sum(), p.bought.sum(), p.missed.sum(), p.waitNanos.sum() / 1_000_000,
+                        p.restocked.sum(), p.expired.sum());
+            }
+            System.out.println("====================");
+        }
+
+        static class ThreadSummary {
+            final long blockedCount;
+            final long blockedMillis;
+            // ThreadMXBean рахує WAITING і TIMED_WAITING разом
+            final long waitedCount;
+            final long waitedMillis;
+            final long cpuNanos;
+
+            ThreadSummary(long blockedCount, long blockedMillis, long waitedCount, long waitedMillis, long cpuNanos) {
+                this.blockedCount = blockedCount;
+                this.blockedMillis = blockedMillis;
+                this.waitedCount = waitedCount;
+                this.waitedMillis = waitedMillis;
+                this.cpuNanos = cpuNanos;
+            }
+        }
+
+        static class ProductStats {
+            final LongAdder acquired = new LongAdder();
+            final LongAdder bought = new LongAdder();
+            final LongAdder missed = new LongAdder();
+            final LongAdder waitNanos = new LongAdder();
+            final LongAdder restocked = new LongAdder();
+            final LongAdder expired = new LongAdder();
+        }
+    }
+
+    // Резерв однієї одиниці товару в кошику; живе до підтвердження, скасування або TTL
+    static class Reservation {
+        enum State { HELD, CONFIRMED, RELEASED }
+
+        private final String productName;
+        private final Semaphore sem;
+        private final AtomicReference<State> state = new AtomicReference<>(State.HELD);
+        private volatile TimerWheel.Timeout expiry;
+
+        Reservation(String productName, Semaphore sem) {
+            this.productName = productName;
+            this.sem = sem;
+        }
+
+        public String productName() {
+            return productName;
+        }
+
+        public State state() {
+            return state.get();
+        }
+
+        // Переводить резерв із HELD у кінцевий стан; true лише для першого, хто встиг
+        private boolean finish(State target) {
+            if (!state.compareAndSet(State.HELD, target)) {
+                return false;
+            }
+            TimerWheel.Timeout t = expiry;
+            if (t != null) {
+                t.cancel();
+            }
+            return true;
+        }
+    }
+
     // Клас, що представляє магазин
     static class Shop {
         // map: productName -> semaphore (кількість одиниць у наявності)
@@ -24,6 +255,15 @@ public class InternetShop {
         // Прапорець чи магазин відкритий
         private final AtomicBoolean shopOpen = new AtomicBoolean(false);
 
+        private final ShopProfiler profiler = new ShopProfiler();
+
+        // Один потік-колесо на всі таймери магазину: TTL резервів, поповнення, години роботи.
+        // Створюється при першому використанні, тож магазин без таймерів не тримає зайвий потік
+        private volatile TimerWheel timers;
+        private final Object timersLock = new Object();
+        // Відпускається, коли магазин зачиняється за розкладом
+        private final CountDownLatch closedLatch = new CountDownLatch(1);
+
         // Встановити початковий товар (можна 0)
         public void addProduct(String productName, int initialQty) {
             synchronized (stockLock) {
@@ -37,6 +277,8 @@ public class InternetShop {
         // Поповнення товару (викликає адміністратор)
         public void restock(String productName, int qty) {
             if (qty <= 0) return;
+            RestockEvent event = new RestockEvent();
+            event.begin();
             Semaphore sem = stock.get(productName);
             if (sem == null) {
                 synchronized (stockLock) {
@@ -44,25 +286,164 @@ public class InternetShop {
                 }
             }
             sem.release(qty); // додаємо дозволи -> збільшуємо наявність
+            profiler.recordRestock(productName, qty);
+            if (event.shouldCommit()) {
+                event.product = productName;
+                event.qty = qty;
+                event.commit();
+            }
             System.out.printf("[МАГАЗИН] Адмін поповнив '%s' на %d шт. Тепер доступно (приблизно): %d\n",
                     productName, qty, sem.availablePermits());
         }
 
         // Спроба купити товар; якщо магазин зачинено або товару нема, повертає false
         public boolean tryBuy(String productName, long waitMillis) throws InterruptedException {
-            if (!shopOpen.get()) {
-                // Магазин зачинено
-                return false;
+            TryBuyEvent event = new TryBuyEvent();
+            event.begin();
+            boolean got = false;
+            try {
+                if (!shopOpen.get()) {
+                    // Магазин зачинено
+                    return false;
+                }
+                Semaphore sem = stock.get(productName);
+                if (sem == null) return false;
+
+                // Спроба отримати 1 одиницю товару:
+                // використаємо tryAcquire з timeout — якщо не вдалося — покупець отримає повідомлення "нема в наявності"
+                got = acquire(sem, productName, waitMillis);
+                if (got) {
+                    profiler.recordPurchase(productName);
+                }
+                return got;
+            } finally {
+                if (event.shouldCommit()) {
+                    event.product = productName;
+                    event.success = got;
+                    event.commit();
+                }
             }
-            Semaphore sem = stock.get(productName);
-            if (sem == null) return false;
+        }
 
-            // Спроба отримати 1 одиницю товару:
-            // використаємо tryAcquire з timeout — якщо не вдалося — покупець отримає повідомлення "нема в наявності"
+        private boolean acquire(Semaphore sem, String productName, long waitMillis) throws InterruptedException {
+            SemaphoreWaitEvent event = new SemaphoreWaitEvent();
+            event.begin();
+            long start = System.nanoTime();
             boolean got = sem.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+            profiler.recordWait(productName, System.nanoTime() - start, got);
+            if (event.shouldCommit()) {
+                event.product = productName;
+                event.acquired = got;
+                event.commit();
+            }
             return got;
         }
 
+        // Резерв 1 одиниці на ttlMillis; null, якщо магазин зачинено або товару нема
+        public Reservation reserve(String productName, long waitMillis, long ttlMillis) throws InterruptedException {
+            ReserveEvent event = new ReserveEvent();
+            event.begin();
+            Reservation reservation = null;
+            try {
+                if (!shopOpen.get()) return null;
+                Semaphore sem = stock.get(productName);
+                if (sem == null) return null;
+                if (!acquire(sem, productName, waitMillis)) return null;
+
+                Reservation held = new Reservation(productName, sem);
+                try {
+                    held.expiry = timers().schedule(() -> expire(held), ttlMillis, TimeUnit.MILLISECONDS);
+                } catch (IllegalStateException e) {
+                    // Таймер уже зупинено (магазин вимикається) — одиниця повертається на склад
+                    sem.release();
+                    throw e;
+                }
+                reservation = held;
+                return reservation;
+            } finally {
+                if (event.shouldCommit()) {
+                    event.product = productName;
+                    event.success = reservation != null;
+                    event.ttlMillis = ttlMillis;
+                    event.commit();
+                }
+            }
+        }
+
+        // Підтвердити покупку; false, якщо резерв уже прострочено або скасовано
+        public boolean confirm(Reservation reservation) {
+            boolean confirmed = reservation.finish(Reservation.State.CONFIRMED);
+            if (confirmed) {
+                profiler.recordPurchase(reservation.productName);
+            }
+            ConfirmEvent event = new ConfirmEvent();
+            if (event.shouldCommit()) {
+                event.product = reservation.productName;
+                event.success = confirmed;
+                event.commit();
+            }
+            return confirmed;
+        }
+
+        // Покупець сам відмовився: повертаємо одиницю на склад одразу
+        public void release(Reservation reservation) {
+            if (reservation.finish(Reservation.State.RELEASED)) {
+                reservation.sem.release();
+            }
+        }
+
+        // Викликається колесом таймерів після TTL
+        private void expire(Reservation reservation) {
+            if (reservation.state.compareAndSet(Reservation.State.HELD, Reservation.State.RELEASED)) {
+                reservation.sem.release();
+                profiler.recordExpired(reservation.productName);
+                ReservationExpiredEvent event = new ReservationExpiredEvent();
+                if (event.shouldCommit()) {
+                    event.product = reservation.productName;
+                    event.commit();
+                }
+            }
+        }
+
+        // Години роботи: відкрити через openAfterMillis і зачинити через openForMillis
+        public void scheduleHours(long openAfterMillis, long openForMillis) {
+            timers().schedule(this::openShop, openAfterMillis, TimeUnit.MILLISECONDS);
+            timers().schedule(() -> {
+                closeShop();
+                closedLatch.countDown();
+            }, openAfterMillis + openForMillis, TimeUnit.MILLISECONDS);
+        }
+
+        // Чекати закриття за розкладом (не більше timeoutMillis)
+        public boolean awaitClosing(long timeoutMillis) throws InterruptedException {
+            return closedLatch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        public TimerWheel timers() {
+            TimerWheel wheel = timers;
+            if (wheel == null) {
+                synchronized (timersLock) {
+                    wheel = timers;
+                    if (wheel == null) {
+                        wheel = new TimerWheel("Shop-Timer", 10);
+                        timers = wheel;
+                    }
+                }
+            }
+            return wheel;
+        }
+
+        public void shutdown() throws InterruptedException {
+            profiler.close();
+            TimerWheel wheel;
+            synchronized (timersLock) {
+                wheel = timers;
+            }
+            if (wheel != null) {
+                wheel.stop();
+            }
+        }
+
         public int available(String productName) {
             Semaphore sem = stock.get(productName);
             return sem == null ? 0 : sem.availablePermits();
@@ -85,10 +466,14 @@ public class InternetShop {
         public Set<String> productNames() {
             return Collections.unmodifiableSet(stock.keySet());
         }
+
+        public ShopProfiler profiler() {
+            return profiler;
+        }
     }
 
-    // Admin додає товари в робочі години (Runnable)
-    static class Admin implements Runnable {
+    // Admin поповнює товар за розкладом на колесі таймерів магазину
+    static class Admin {
         private final Shop shop;
         private final String productName;
         private final int restockQty;
@@ -103,35 +488,21 @@ public class InternetShop {
             this.workingTimeMillis = workingTimeMillis;
         }
 
-        @Override
-        public void run() {
-            Thread current = Thread.currentThread();
-            System.out.printf("[АДМІН] Потік %s починає роботу.\n", current.getName());
+        public void start() {
+            System.out.printf("[АДМІН] Починає роботу: '%s' по %d шт кожні %d мс.\n",
+                    productName, restockQty, restockIntervalMillis);
 
-            // Адмін працює тільки коли магазин відкритий
-            long endTime = System.currentTimeMillis() + workingTimeMillis;
-            try {
-                while (System.currentTimeMillis() < endTime) {
-                    if (!shop.isOpen()) {
-                        // Чекаємо, поки магазин відкриють (штучне очікування)
-                        Thread.sleep(200);
-                        continue;
-                    }
-                    // Поповнюємо товар
+            // Поповнюємо тільки коли магазин відкритий
+            TimerWheel.Timeout schedule = shop.timers().schedulePeriodic(() -> {
+                if (shop.isOpen()) {
                     shop.restock(productName, restockQty);
-
-                    // Друкуємо стан потоку для демонстрації Thread.State
-                    System.out.printf("[АДМІН] Поточний стан потоку %s: %s\n", current.getName(), current.getState());
-
-                    // Чекати перед наступним поповненням
-                    Thread.sleep(restockIntervalMillis);
                 }
-            } catch (InterruptedException e) {
-                // Обробка переривання: безпечне завершення
-                System.out.printf("[АДМІН] Потік %s перервано, завершення роботи.\n", current.getName());
-                Thread.currentThread().interrupt();
-            }
-            System.out.printf("[АДМІН] Потік %s завершив роботу.\n", current.getName());
+            }, restockIntervalMillis, restockIntervalMillis, TimeUnit.MILLISECONDS);
+
+            shop.timers().schedule(() -> {
+                schedule.cancel();
+                System.out.println("[АДМІН] Завершив роботу.");
+            }, workingTimeMillis, TimeUnit.MILLISECONDS);
         }
     }
 
@@ -143,14 +514,19 @@ public class InternetShop {
         private final long tryIntervalMillis; // як часто пробує купити
         private final int attempts; // скільки спроб зробити
         private final long waitForStockMillis; // скільки чекати отримання товару (tryAcquire timeout)
+        private final long checkoutMillis; // скільки покупець оформлює замовлення після резерву
+        private final long holdMillis; // скільки магазин тримає товар у кошику (TTL резерву)
 
-        public Buyer(Shop shop, String buyerName, String productName, long tryIntervalMillis, int attempts, long waitForStockMillis) {
+        public Buyer(Shop shop, String buyerName, String productName, long tryIntervalMillis, int attempts,
+                     long waitForStockMillis, long checkoutMillis, long holdMillis) {
             this.shop = shop;
             this.buyerName = buyerName;
             this.productName = productName;
             this.tryIntervalMillis = tryIntervalMillis;
             this.attempts = attempts;
             this.waitForStockMillis = waitForStockMillis;
+            this.checkoutMillis = checkoutMillis;
+            this.holdMillis = holdMillis;
         }
 
         @Override
@@ -166,12 +542,20 @@ public class InternetShop {
                         continue;
                     }
 
-                    // Спроба купити товар
-                    boolean bought = shop.tryBuy(productName, waitForStockMillis);
-                    if (bought) {
-                        System.out.printf("[ПОКУПЕЦЬ %s] Успіх! Ви купили '%s'. Залишок (приблизно): %d\n",
-                                buyerName, productName, shop.available(productName));
-                        break; // припустимо, покупець купує один раз і йде
+                    // Спроба покласти товар у кошик
+                    Reservation reservation = shop.reserve(productName, waitForStockMillis, holdMillis);
+                    if (reservation != null) {
+                        System.out.printf("[ПОКУПЕЦЬ %s] '%s' у кошику, магазин тримає його %d мс.\n",
+                                buyerName, productName, holdMillis);
+                        Thread.sleep(checkoutMillis);
+                        if (shop.confirm(reservation)) {
+                            System.out.printf("[ПОКУПЕЦЬ %s] Успіх! Ви купили '%s'. Залишок (приблизно): %d\n",
+                                    buyerName, productName, shop.available(productName));
+                            break; // припустимо, покупець купує один раз і йде
+                        }
+                        System.out.printf("[ПОКУПЕЦЬ %s] Час резерву вийшов, '%s' повернувся на склад. Спроба %d/%d.\n",
+                                buyerName, productName, i + 1, attempts);
+                        Thread.sleep(tryIntervalMillis);
                     } else {
                         // Не вдалось купити (або товару немає, або магазин зачинено)
                         if (!shop.isOpen()) {
@@ -186,6 +570,8 @@ public class InternetShop {
             } catch (InterruptedException e) {
                 System.out.printf("[ПОКУПЕЦЬ %s] Покупця %s перервали.\n", buyerName, current.getName());
                 Thread.currentThread().interrupt();
+            } finally {
+                shop.profiler().captureCurrentThread();
             }
             System.out.printf("[ПОКУПЕЦЬ %s] Потік %s завершив роботу.\n", buyerName, current.getName());
         }
@@ -201,42 +587,30 @@ public class InternetShop {
 
         // Створюємо адміністратора: поповнює "Ноутбук" по 1 шт кожні 4 секунди, працює 20 сек
         Admin admin = new Admin(shop, "Ноутбук", 1, 4000, 20000);
-        Thread adminThread = new Thread(admin, "Admin-Thread");
 
-        // Створюємо кількох покупців
-        Buyer buyer1 = new Buyer(shop, "Олена", "Ноутбук", 3000, 5, 1500);
-        Buyer buyer2 = new Buyer(shop, "Іван", "Ноутбук", 5000, 3, 1000);
-        Buyer buyer3 = new Buyer(shop, "Марія", "Мишка", 2000, 2, 500);
+        // Створюємо кількох покупців (товар тримається в кошику 2 сек; Іван оформлює довше і не встигає з першого разу)
+        Buyer buyer1 = new Buyer(shop, "Олена", "Ноутбук", 3000, 5, 1500, 500, 2000);
+        Buyer buyer2 = new Buyer(shop, "Іван", "Ноутбук", 5000, 3, 1000, 2500, 2000);
+        Buyer buyer3 = new Buyer(shop, "Марія", "Мишка", 2000, 2, 500, 300, 2000);
 
         Thread b1 = new Thread(buyer1, "Buyer-Olena");
         Thread b2 = new Thread(buyer2, "Buyer-Ivan");
         Thread b3 = new Thread(buyer3, "Buyer-Maria");
 
-        List<Thread> allThreads = Arrays.asList(adminThread, b1, b2, b3);
+        List<Thread> allThreads = Arrays.asList(b1, b2, b3);
+
+        // Робочі години: магазин відкриється через 1 секунду і працюватиме 15 секунд (за таймером)
+        shop.scheduleHours(1000, 15000);
+        admin.start();
 
         // Запускаємо потоки (стан NEW -> RUNNABLE)
         for (Thread t : allThreads) {
             t.start();
         }
 
-        // Симулюємо робочі години: відкриваємо магазин через 1 секунду, працює 12 секунд, потім зачиняємо
         try {
-            Thread.sleep(1000);
-            shop.openShop();
-
-            // Показувати стани потоків кожні 2 секунди протягом симуляції
-            long monitorEnd = System.currentTimeMillis() + 15000; // моніторимо 15 сек
-            while (System.currentTimeMillis() < monitorEnd) {
-                System.out.println("=== Стан потоків ===");
-                for (Thread t : allThreads) {
-                    System.out.printf("Потік %s — стан: %s\n", t.getName(), t.getState());
-                }
-                System.out.println("====================");
-                Thread.sleep(2000);
-            }
-
-            // Закриваємо магазин (симуляція кінця робочого дня)
-            shop.closeShop();
+            // Час у станах потоків збирає ShopProfiler
+            shop.awaitClosing(20000);
 
             // Дочекаємось завершення потоків (не більше 10 сек)
             for (Thread t : allThreads) {
@@ -247,10 +621,17 @@ public class InternetShop {
             for (Thread t : allThreads) {
                 System.out.printf("%s -> %s\n", t.getName(), t.getState());
             }
+            shop.profiler().printReport();
 
         } catch (InterruptedException e) {
             System.out.println("[СИМУЛЯЦІЯ] Головний потік перервано.");
             Thread.currentThread().interrupt();
+        } finally {
+            try {
+                shop.shutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
 
         System.out.println("[СИМУЛЯЦІЯ] Всі операції завершено. Дякуємо за використання симуляції інтернет-магазину.");
@@ -128,7 +128,10 @@ public class PR3 {
     }
 
     private static long runWorkDealing(int[] array) {
-        int cores = Runtime.getRuntime().availableProcessors();
+        return runWorkDealing(array, Runtime.getRuntime().availableProcessors());
+    }
+
+    static long runWorkDealing(int[] array, int cores) {
         ExecutorService executor = Executors.newFixedThreadPool(cores);
         List<Future<Long>> futures = new ArrayList<>();
 
@@ -240,11 +243,9 @@ public class PR3 {
         return scanner.nextInt();
     }
 
-    private static int[] generateArray(int size, int min, int max) {
-        int[] arr = new int[size];
-        for (int i = 0; i < size; i++) {
-            arr[i] = ThreadLocalRandom.current().nextInt(min, max + 1);
-        }
-        return arr;
+    static int[] generateArray(int size, int min, int max) {
+        // Паралельна генерація частинами; seed випадковий, як і раніше
+        return RandomDataGenerator.generateInts(size, ThreadLocalRandom.current().nextLong(),
+                RandomDataGenerator.uniform(min, max));
     }
 }
\ No newline at end of file
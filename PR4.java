@@ -1,13 +1,22 @@
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class PR4 {
 
+    // Дедлайн одного етапу конвеєра та всього завдання (мс)
+    private static final long STAGE_TIMEOUT_MS = 2000;
+    private static final long TASK_DEADLINE_MS = 5000;
+
     public static void main(String[] args) throws ExecutionException, InterruptedException {
         System.out.println("=== ЗАВДАННЯ 1 ===");
         runTask1();
@@ -18,8 +27,17 @@ public class PR4 {
         runTask2();
     }
 
-    private static void runTask1() throws ExecutionException, InterruptedException {
-        CompletableFuture<List<Integer>> futureOriginal = CompletableFuture.supplyAsync(() -> {
+    static boolean runTask1() throws ExecutionException, InterruptedException {
+        return runTask1(TASK_DEADLINE_MS);
+    }
+
+    // deadlineMillis — дедлайн усього завдання, заданий викликачем;
+    // false, якщо завдання скасовано по дедлайну, таймауту або помилці етапу
+    static boolean runTask1(long deadlineMillis) throws ExecutionException, InterruptedException {
+        // Токен скасування: завершується при дедлайні, таймауті етапу або помилці
+        CompletableFuture<Void> cancelToken = newCancelToken(deadlineMillis);
+
+        CompletableFuture<List<Integer>> futureOriginal = stage(() -> {
             long start = System.nanoTime();
             System.out.println("Start: Генерація масиву...");
 
@@ -28,17 +46,17 @@ public class PR4 {
                 list.add(ThreadLocalRandom.current().nextInt(1, 11));
             }
 
-            sleep(500);
+            sleep(500, cancelToken);
 
             printTime("Генерація масиву", start);
             return list;
         });
 
-        futureOriginal.thenAcceptAsync(list ->
+        CompletableFuture<Void> printOriginal = futureOriginal.thenAcceptAsync(list ->
                 System.out.println("-> Початковий масив: " + list)
         );
 
-        CompletableFuture<List<Integer>> futureModified = futureOriginal.thenApplyAsync(originalList -> {
+        CompletableFuture<List<Integer>> futureModified = futureOriginal.thenCompose(originalList -> stage(() -> {
             long start = System.nanoTime();
             System.out.println("Start: Модифікація масиву (+5)...");
 
@@ -46,66 +64,79 @@ public class PR4 {
                     .map(x -> x + 5)
                     .collect(Collectors.toList());
 
-            sleep(300);
+            sleep(300, cancelToken);
 
             printTime("Модифікація масиву", start);
             return modified;
-        });
+        }));
 
-        futureModified.thenAcceptAsync(list ->
+        CompletableFuture<Void> printModified = futureModified.thenAcceptAsync(list ->
                 System.out.println("-> Модифікований масив: " + list)
         );
 
-        CompletableFuture<Void> finalTask = futureOriginal.thenCombineAsync(futureModified, (list1, list2) -> {
+        CompletableFuture<BigInteger> factorialFuture = futureOriginal.thenCombine(futureModified, (list1, list2) -> stage(() -> {
             long start = System.nanoTime();
             System.out.println("Start: Обчислення факторіалу суми...");
 
-            int sum1 = list1.stream().mapToInt(Integer::intValue).sum();
-            int sum2 = list2.stream().mapToInt(Integer::intValue).sum();
+            int sum1 = sum(list1, cancelToken);
+            int sum2 = sum(list2, cancelToken);
             int totalSum = sum1 + sum2;
 
             System.out.println("   Сума 1-го масиву: " + sum1);
             System.out.println("   Сума 2-го масиву: " + sum2);
             System.out.println("   Загальна сума для факторіалу: " + totalSum);
 
-            BigInteger factorial = calculateFactorial(totalSum);
+            BigInteger factorial = calculateFactorial(totalSum, cancelToken);
 
-            sleep(500);
+            sleep(500, cancelToken);
             printTime("Обчислення факторіалу", start);
             return factorial;
-        }).thenAcceptAsync(factorial -> {
+        })).thenCompose(Function.identity());
+
+        CompletableFuture<Void> finalTask = factorialFuture.thenAcceptAsync(factorial -> {
             System.out.println("-> Результат ФАКТОРІАЛУ: " + truncateBigNumber(factorial));
         });
 
-        finalTask.get();
+        linkCancellation(cancelToken, futureOriginal, printOriginal, futureModified, printModified,
+                factorialFuture, finalTask);
+
+        return awaitTask("Завдання 1", finalTask, cancelToken);
+    }
+
+    static boolean runTask2() throws ExecutionException, InterruptedException {
+        return runTask2(TASK_DEADLINE_MS);
     }
 
-    private static void runTask2() throws ExecutionException, InterruptedException {
+    static boolean runTask2(long deadlineMillis) throws ExecutionException, InterruptedException {
         long globalStart = System.nanoTime();
+        CompletableFuture<Void> cancelToken = newCancelToken(deadlineMillis);
 
-        CompletableFuture<List<Integer>> sequenceFuture = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<List<Integer>> sequenceFuture = stage(() -> {
             System.out.println("Start: Генерація послідовності (20 чисел)...");
             List<Integer> list = new ArrayList<>();
             for (int i = 0; i < 20; i++) {
                 list.add(ThreadLocalRandom.current().nextInt(1, 100));
             }
-            sleep(200);
+            sleep(200, cancelToken);
             return list;
         });
 
-        CompletableFuture<Void> logicFuture = sequenceFuture.thenApplyAsync(list -> {
+        CompletableFuture<Integer> minFuture = sequenceFuture.thenCompose(list -> stage(() -> {
             System.out.println("Інфо: Послідовність згенеровано: " + list);
 
             int minSum = Integer.MAX_VALUE;
             for (int i = 0; i < list.size() - 1; i++) {
+                checkCancelled(cancelToken);
                 int pairSum = list.get(i) + list.get(i+1);
                 if (pairSum < minSum) {
                     minSum = pairSum;
                 }
             }
-            sleep(300);
+            sleep(300, cancelToken);
             return minSum;
-        }).thenAcceptAsync(minResult -> {
+        }));
+
+        CompletableFuture<Void> logicFuture = minFuture.thenAcceptAsync(minResult -> {
             System.out.println("-> Результат min(a[i] + a[i+1]): " + minResult);
         });
 
@@ -115,12 +146,80 @@ public class PR4 {
             System.out.printf("=== Час роботи усіх асинхронних операцій Завдання 2: %.4f мс ===%n", duration);
         });
 
-        timeReportTask.get();
+        linkCancellation(cancelToken, sequenceFuture, minFuture, logicFuture, timeReportTask);
+
+        return awaitTask("Завдання 2", timeReportTask, cancelToken);
+    }
+
+    // Етап зі своїм таймаутом: thenCompose викликає stage() лише після завершення попередніх етапів,
+    // тож таймер стартує разом з етапом, а не під час побудови конвеєра
+    private static <T> CompletableFuture<T> stage(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work).orTimeout(STAGE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Токен, який сам завершиться по дедлайну всього завдання
+    private static CompletableFuture<Void> newCancelToken(long deadlineMillis) {
+        CompletableFuture<Void> token = new CompletableFuture<>();
+        token.completeOnTimeout(null, deadlineMillis, TimeUnit.MILLISECONDS);
+        return token;
+    }
+
+    // Помилка/таймаут будь-якого етапу завершує токен, а токен скасовує всі етапи,
+    // що ще не виконались (і вгору, і вниз по конвеєру)
+    private static void linkCancellation(CompletableFuture<Void> token, CompletableFuture<?>... stages) {
+        for (CompletableFuture<?> stage : stages) {
+            stage.whenComplete((result, ex) -> {
+                if (ex != null) {
+                    token.complete(null);
+                }
+            });
+        }
+        token.thenRun(() -> {
+            for (CompletableFuture<?> stage : stages) {
+                stage.cancel(false);
+            }
+        });
+    }
+
+    private static boolean awaitTask(String taskName, CompletableFuture<?> task, CompletableFuture<Void> token)
+            throws InterruptedException {
+        try {
+            // get() не зависне: токен по дедлайну скасує всі етапи
+            task.get();
+            return true;
+        } catch (InterruptedException e) {
+            // Викликач більше не чекає — зупиняємо конвеєр і передаємо переривання далі
+            token.complete(null);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (CancellationException e) {
+            System.out.println("-> " + taskName + " скасовано (дедлайн або помилка етапу).");
+        } catch (ExecutionException e) {
+            System.out.println("-> " + taskName + " перервано: " + e.getCause());
+        }
+        return false;
+    }
+
+    // Кооперативна перевірка скасування; викликається на кожній ітерації — це лише одне volatile-читання
+    private static void checkCancelled(CompletableFuture<?> token) {
+        if (token.isDone()) {
+            throw new CancellationException("Етап скасовано");
+        }
+    }
+
+    private static int sum(List<Integer> list, CompletableFuture<?> token) {
+        int sum = 0;
+        for (int i = 0; i < list.size(); i++) {
+            checkCancelled(token);
+            sum += list.get(i);
+        }
+        return sum;
     }
 
-    private static BigInteger calculateFactorial(int n) {
+    private static BigInteger calculateFactorial(int n, CompletableFuture<?> token) {
         BigInteger result = BigInteger.ONE;
         for (int i = 2; i <= n; i++) {
+            checkCancelled(token);
             result = result.multiply(BigInteger.valueOf(i));
         }
         return result;
@@ -132,12 +231,18 @@ public class PR4 {
         System.out.printf("[Time] %s зайняло: %.4f мс%n", taskName, duration);
     }
 
-    private static void sleep(int ms) {
+    // Пауза, яку можна перервати скасуванням токена
+    private static void sleep(int ms, CompletableFuture<?> token) {
         try {
-            Thread.sleep(ms);
+            token.get(ms, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // токен не завершується з помилкою
         }
+        throw new CancellationException("Етап скасовано");
     }
 
     private static String truncateBigNumber(BigInteger val) {
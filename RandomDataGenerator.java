@@ -0,0 +1,156 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * RandomDataGenerator.java
+ *
+ * Паралельна генерація великих вхідних даних для бенчмарків.
+ * Дані діляться на частини фіксованого розміру, кожна частина отримує власний
+ * SplittableRandom (split() від кореневого генератора з seed), тож результат
+ * однаковий для того самого seed незалежно від кількості потоків.
+ */
+public class RandomDataGenerator {
+
+    // Логічна частина: один генератор на CHUNK_SIZE значень — однаково для масиву і файлу,
+    // тож той самий seed дає ті самі дані в обох випадках
+    private static final int CHUNK_SIZE = 1 << 16;
+    // Файл відображається в пам'ять регіонами по кілька логічних частин
+    private static final int CHUNKS_PER_MAPPING = 16;
+
+    // Розподіл значень; кожна частина викликає next() зі своїм генератором
+    public interface Distribution {
+        int next(SplittableRandom rnd);
+    }
+
+    // Рівномірний розподіл у [min, max] включно
+    public static Distribution uniform(int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min > max: " + min + " > " + max);
+        }
+        long bound = (long) max + 1;
+        return rnd -> (int) rnd.nextLong(min, bound);
+    }
+
+    // Нормальний розподіл, обрізаний до [min, max]
+    public static Distribution gaussian(double mean, double stddev, int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min > max: " + min + " > " + max);
+        }
+        return rnd -> (int) Math.max(min, Math.min(max, Math.round(mean + stddev * rnd.nextGaussian())));
+    }
+
+    public static int[] generateInts(int size, long seed, Distribution dist) {
+        return generateInts(size, seed, dist, ForkJoinPool.commonPool());
+    }
+
+    public static int[] generateInts(int size, long seed, Distribution dist, ForkJoinPool pool) {
+        int[] arr = new int[size];
+        SplittableRandom[] streams = splitStreams(seed, chunkCount(size, CHUNK_SIZE));
+        pool.invoke(new FillTask(0, streams.length,
+                chunk -> {
+                    SplittableRandom rnd = streams[chunk];
+                    int from = chunk * CHUNK_SIZE;
+                    int to = (int) Math.min(size, (long) from + CHUNK_SIZE);
+                    for (int i = from; i < to; i++) {
+                        arr[i] = dist.next(rnd);
+                    }
+                }));
+        return arr;
+    }
+
+    // Записує count int-ів (порядок байтів платформи) у файл через відображення в пам'ять
+    public static void generateToFile(Path file, long count, long seed, Distribution dist) throws IOException {
+        generateToFile(file, count, seed, dist, ForkJoinPool.commonPool());
+    }
+
+    public static void generateToFile(Path file, long count, long seed, Distribution dist, ForkJoinPool pool)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            SplittableRandom[] streams = splitStreams(seed, chunkCount(count, CHUNK_SIZE));
+            int mappings = (streams.length + CHUNKS_PER_MAPPING - 1) / CHUNKS_PER_MAPPING;
+            try {
+                pool.invoke(new FillTask(0, mappings,
+                        mapping -> {
+                            int firstChunk = mapping * CHUNKS_PER_MAPPING;
+                            int lastChunk = Math.min(streams.length, firstChunk + CHUNKS_PER_MAPPING);
+                            long from = (long) firstChunk * CHUNK_SIZE;
+                            int n = (int) Math.min((long) CHUNKS_PER_MAPPING * CHUNK_SIZE, count - from);
+                            try {
+                                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE,
+                                        from * Integer.BYTES, (long) n * Integer.BYTES);
+                                IntBuffer ints = mapped.order(ByteOrder.nativeOrder()).asIntBuffer();
+                                for (int chunk = firstChunk; chunk < lastChunk; chunk++) {
+                                    SplittableRandom rnd = streams[chunk];
+                                    int start = (chunk - firstChunk) * CHUNK_SIZE;
+                                    int end = Math.min(n, start + CHUNK_SIZE);
+                                    for (int i = start; i < end; i++) {
+                                        ints.put(i, dist.next(rnd));
+                                    }
+                                }
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static int chunkCount(long size, int chunkSize) {
+        long chunks = (size + chunkSize - 1) / chunkSize;
+        if (chunks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Занадто багато даних: " + size);
+        }
+        return (int) chunks;
+    }
+
+    // Генератори частин створюються послідовно, щоб не залежати від порядку виконання
+    private static SplittableRandom[] splitStreams(long seed, int chunks) {
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int i = 0; i < chunks; i++) {
+            streams[i] = root.split();
+        }
+        return streams;
+    }
+
+    interface ChunkFiller {
+        void fill(int index);
+    }
+
+    // Ділить діапазон індексів [start, end) навпіл до одного індексу на лист
+    static class FillTask extends RecursiveAction {
+        private final int start;
+        private final int end;
+        private final ChunkFiller filler;
+
+        FillTask(int start, int end, ChunkFiller filler) {
+            this.start = start;
+            this.end = end;
+            this.filler = filler;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= 1) {
+                if (start < end) {
+                    filler.fill(start);
+                }
+                return;
+            }
+            int mid = start + (end - start) / 2;
+            invokeAll(new FillTask(start, mid, filler), new FillTask(mid, end, filler));
+        }
+    }
+}
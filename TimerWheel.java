@@ -0,0 +1,274 @@
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * TimerWheel.java
+ *
+ * Ієрархічне колесо таймерів: усі таймаути обслуговує один потік.
+ * - 4 рівні по 256 слотів, один тік = tickMillis; рівень 0 покриває 256 тіків,
+ *   вищі рівні каскадом переносять таймаути вниз, коли до них доходить черга.
+ * - schedule/cancel з будь-якого потоку лише кладуть запит у чергу (O(1)),
+ *   самі слоти змінює тільки потік колеса, тож блокувань немає.
+ * Задачі виконуються в потоці колеса, тому мають бути короткими.
+ */
+public class TimerWheel {
+
+    private static final int BITS = 8;
+    private static final int WHEEL_SIZE = 1 << BITS;
+    private static final int MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    // Максимальна відстань (у тіках), яку колесо розміщує без повторного каскаду
+    private static final long SPAN = 1L << (BITS * LEVELS);
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+    // volatile int + updater замість AtomicInteger: на мільйонах таймаутів це помітна економія пам'яті
+    private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+    private final long tickNanos;
+    private final long startNanos;
+    // wheel[level][slot] -> голова двозв'язного списку таймаутів
+    private final Timeout[][] wheel = new Timeout[LEVELS][WHEEL_SIZE];
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean running = true;
+    // Останній оброблений тік (змінює тільки потік колеса)
+    private long tick;
+
+    // Дескриптор запланованої задачі; cancel() можна викликати з будь-якого потоку
+    public final class Timeout {
+        private final Runnable task;
+        private final long periodTicks;
+        private volatile int state = PENDING;
+        private long deadlineTick;
+        // Поля нижче змінює тільки потік колеса
+        private Timeout prev;
+        private Timeout next;
+        private int level = -1;
+        private int slot;
+
+        private Timeout(Runnable task, long deadlineTick, long periodTicks) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+            this.periodTicks = periodTicks;
+        }
+
+        // true, якщо задачу скасовано до спрацювання (для періодичних — зупиняє наступні запуски)
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            pending.decrementAndGet();
+            cancelled.add(this);
+            LockSupport.unpark(worker);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+    }
+
+    public TimerWheel(String name, long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis має бути > 0: " + tickMillis);
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::runWorker, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return submit(new Timeout(task, deadlineTick(unit.toNanos(delay)), 0));
+    }
+
+    // Повторювати кожні period (округлено вгору до тіку, як і затримки); перший запуск через initialDelay
+    public Timeout schedulePeriodic(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        long periodNanos = unit.toNanos(period);
+        long periodTicks = Math.max(1, (periodNanos + tickNanos - 1) / tickNanos);
+        return submit(new Timeout(task, deadlineTick(unit.toNanos(initialDelay)), periodTicks));
+    }
+
+    public long pendingTimeouts() {
+        return pending.get();
+    }
+
+    // Зупиняє потік колеса; незапущені задачі відкидаються
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        if (Thread.currentThread() != worker) {
+            worker.join();
+        }
+    }
+
+    private Timeout submit(Timeout timeout) {
+        if (!running) {
+            throw new IllegalStateException("TimerWheel зупинено");
+        }
+        pending.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    // Округлення вгору: таймаут ніколи не спрацює раніше заданої затримки
+    private long deadlineTick(long delayNanos) {
+        long elapsed = System.nanoTime() - startNanos + Math.max(0, delayNanos);
+        return (elapsed + tickNanos - 1) / tickNanos;
+    }
+
+    private void runWorker() {
+        while (running) {
+            long nextTickNanos = startNanos + (tick + 1) * tickNanos;
+            long waitNanos = nextTickNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(this, waitNanos);
+                processCancelled();
+                continue;
+            }
+            processCancelled();
+            processAdded();
+            // Якщо потік відстав — проходимо всі пропущені тіки
+            long currentTick = (System.nanoTime() - startNanos) / tickNanos;
+            while (tick < currentTick && running) {
+                advance();
+            }
+        }
+    }
+
+    private void processCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.level >= 0) {
+                unlink(timeout);
+            }
+        }
+    }
+
+    private void processAdded() {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null) {
+            if (timeout.state == PENDING) {
+                insert(timeout, tick + 1);
+            }
+        }
+    }
+
+    private void advance() {
+        tick++;
+        // Коли молодший рівень робить повний оберт — переносимо слот старшого рівня вниз
+        int level = 0;
+        while (level < LEVELS - 1 && ((tick >>> (BITS * level)) & MASK) == 0) {
+            level++;
+        }
+        for (int l = level; l >= 1; l--) {
+            cascade(l, (int) ((tick >>> (BITS * l)) & MASK));
+        }
+        expire((int) (tick & MASK));
+    }
+
+    private void cascade(int level, int slot) {
+        Timeout timeout = wheel[level][slot];
+        wheel[level][slot] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.level = -1;
+            // Слот 0 поточного тіку ще буде оброблено в advance(), тож дедлайн == tick не запізниться
+            insert(timeout, tick);
+            timeout = next;
+        }
+    }
+
+    private void expire(int slot) {
+        Timeout timeout = wheel[0][slot];
+        wheel[0][slot] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.level = -1;
+            if (timeout.deadlineTick > tick) {
+                // Таймаут далі ніж SPAN: ще не його оберт
+                insert(timeout, tick + 1);
+            } else {
+                fire(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    private void fire(Timeout timeout) {
+        if (timeout.periodTicks > 0) {
+            if (timeout.state != PENDING) return;
+            run(timeout);
+            if (timeout.state == PENDING) {
+                timeout.deadlineTick = tick + timeout.periodTicks;
+                insert(timeout, tick + 1);
+            }
+            return;
+        }
+        if (STATE.compareAndSet(timeout, PENDING, EXPIRED)) {
+            pending.decrementAndGet();
+            run(timeout);
+        }
+    }
+
+    private void run(Timeout timeout) {
+        try {
+            timeout.task.run();
+        } catch (RuntimeException e) {
+            // Помилка однієї задачі не повинна зупинити колесо
+            System.err.printf("[ТАЙМЕР] Задача завершилась з помилкою: %s\n", e);
+        }
+    }
+
+    // earliestTick — найраніший тік, слот якого ще буде оброблено
+    private void insert(Timeout timeout, long earliestTick) {
+        long deadline = Math.max(timeout.deadlineTick, earliestTick);
+        long delta = Math.min(deadline - tick, SPAN - 1);
+        int level = 0;
+        while (delta >= (1L << (BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) (((tick + delta) >>> (BITS * level)) & MASK);
+
+        timeout.level = level;
+        timeout.slot = slot;
+        timeout.prev = null;
+        timeout.next = wheel[level][slot];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        wheel[level][slot] = timeout;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            wheel[timeout.level][timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.level = -1;
+    }
+}